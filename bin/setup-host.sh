@@ -48,3 +48,5 @@ chmod -R 555 ${binary_dir}
 chmod -R 777 ${template_dir}
 
 popd
+
+"$(dirname "$0")/warm-template.sh"
@@ -0,0 +1,57 @@
+#!/bin/bash
+
+# Writes an InnoDB buffer pool dump (data/ib_buffer_pool) into the template so servers started from it
+# load a warm buffer pool at startup. Safe to re-run against an existing template.
+#
+# Only the template's InnoDB system tables are warmed. Databases created by the rule after startup are not
+# part of the template, so none of their pages can be in the dump.
+
+if [[ "$(id -u)" != "0" ]]; then
+  echo "This script must be run as root" 1>&2
+  exit 1
+fi
+
+base_dir=/opt/mysql-rule
+binary_dir=${base_dir}/binary
+template_dir=${base_dir}/template
+template_data_dir=${template_dir}/data
+socket=${template_dir}/warm.sock
+mysqld=${binary_dir}/bin/mysqld
+mysqladmin=${binary_dir}/bin/mysqladmin
+mysql=${binary_dir}/bin/mysql
+
+if [[ ! -d ${template_data_dir} ]]
+then
+  echo "${template_data_dir} does not exist. Run setup-host.sh first."
+  exit 1
+fi
+
+echo "Starting mysql from template: ${template_dir} ..."
+${mysqld} --user=root --basedir=${template_dir} --datadir=${template_data_dir} \
+ --default-time-zone='+00:00' --skip-networking --socket=${socket} \
+ --innodb-buffer-pool-dump-at-shutdown=ON --innodb-buffer-pool-dump-pct=100 &
+
+attempts=0
+until ${mysqladmin} --socket=${socket} --user=root --silent ping
+do
+  attempts=$((attempts + 1))
+  if [[ ${attempts} -gt 200 ]]
+  then
+    echo "Server failed to start in time."
+    exit 1
+  fi
+  sleep 0.1
+done
+
+echo "Reading every InnoDB template table into the buffer pool ..."
+${mysql} --socket=${socket} --user=root --batch --skip-column-names --execute="
+  SELECT CONCAT('SELECT * FROM \`', table_schema, '\`.\`', table_name, '\`;')
+  FROM information_schema.tables
+  WHERE engine = 'InnoDB'" \
+ | ${mysql} --socket=${socket} --user=root > /dev/null
+
+echo "Shutting down and dumping buffer pool to ${template_data_dir}/ib_buffer_pool ..."
+${mysqladmin} --socket=${socket} --user=root shutdown
+wait
+
+chmod -R 777 ${template_dir}
@@ -1,6 +1,7 @@
 package com.upside.test.mysql;
 
 import com.upside.test.mysql.binary.LocalFile;
+import com.upside.test.mysql.core.BufferPoolWarmupMySQLProcess;
 import com.upside.test.mysql.core.InitViaTemplateMySQLProcess;
 import com.upside.test.mysql.core.LocalhostMySQLProcess;
 import com.upside.test.mysql.core.MySQLProcess;
@@ -23,6 +24,8 @@ public class MySQLRule extends ExternalResource {
     private Path mysqlRootDirectory;
     private final int port;
     private final boolean debug;
+    private boolean awaitBufferPoolLoad;
+    private BufferPoolWarmupMySQLProcess bufferPoolProcess;
 
     private final String dbName;
     private final String dbUser;
@@ -93,6 +96,47 @@ public class MySQLRule extends ExternalResource {
         this.loader = loader;
     }
 
+    /**
+     * Makes startup wait until the buffer pool dump shipped in the template has been loaded, so the first queries
+     * of a test don't pay for cold reads. Has no effect if the template has no dump, see bin/warm-template.sh.
+     *
+     * Only the template's system tables are warmed. The test database is created after startup, so none of its
+     * pages can be in the dump.
+     *
+     * Example:
+     *
+     * <code>
+     * &#64;Rule
+     * public MySQLRule rule = MySQLRule.defaultRule().awaitBufferPoolLoad();
+     * </code>
+     *
+     * @return This rule.
+     */
+    public MySQLRule awaitBufferPoolLoad() {
+        this.awaitBufferPoolLoad = true;
+        return this;
+    }
+
+    /**
+     * @return The final Innodb_buffer_pool_load_status. Only valid after {@code before()} has run with
+     *         {@link #awaitBufferPoolLoad()} enabled.
+     */
+    public String getBufferPoolLoadStatus() {
+        return requireBufferPoolProcess().getLoadStatus();
+    }
+
+    /**
+     * @return The fraction of buffer pool pages holding data once the load finished, between 0 and 1. Only valid
+     *         after {@code before()} has run with {@link #awaitBufferPoolLoad()} enabled.
+     */
+    public double getBufferPoolFillRatio() {
+        BufferPoolWarmupMySQLProcess process = requireBufferPoolProcess();
+        if (process.getPagesTotal() == 0) {
+            return 0;
+        }
+        return (double) process.getPagesData() / process.getPagesTotal();
+    }
+
     /**
      * @return The port to use for mysqld. Only valid after {@code after()} has run.
      */
@@ -152,6 +196,11 @@ public class MySQLRule extends ExternalResource {
                     this.mysqlRootDirectory,
                     templatePath);
 
+            if (this.awaitBufferPoolLoad) {
+                this.bufferPoolProcess = new BufferPoolWarmupMySQLProcess(this.mysqldProcess);
+                this.mysqldProcess = this.bufferPoolProcess;
+            }
+
             this.mysqldProcess.startAndWait();
 
             this.mysqldProcess.sendClientCommands(
@@ -170,6 +219,13 @@ public class MySQLRule extends ExternalResource {
         this.mysqldProcess.stopAndCleanup();
     }
 
+    private BufferPoolWarmupMySQLProcess requireBufferPoolProcess() {
+        if (this.bufferPoolProcess == null) {
+            throw new IllegalStateException("Buffer pool load not awaited. Enable with awaitBufferPoolLoad().");
+        }
+        return this.bufferPoolProcess;
+    }
+
     private String buildDataPrefix() {
         return "mysql-test-rule";
     }
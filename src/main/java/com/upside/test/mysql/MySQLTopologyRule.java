@@ -0,0 +1,354 @@
+package com.upside.test.mysql;
+
+import com.upside.test.mysql.binary.LocalFile;
+import com.upside.test.mysql.core.InitViaTemplateMySQLProcess;
+import com.upside.test.mysql.core.LocalhostMySQLProcess;
+import com.upside.test.mysql.core.MySQLProcess;
+import com.upside.test.mysql.util.FileUtil;
+import com.upside.test.mysql.util.SocketUtil;
+import org.junit.rules.ExternalResource;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rule that starts a primary mysql instance plus a number of read only replicas using GTID replication.
+ *
+ * All servers are started from the template in parallel, then the replicas are pointed at the primary. The
+ * database and user are created on the primary and have replicated to every replica by the time the test runs.
+ *
+ * Writes go to {@link #getWriteUrl()}, reads to any of {@link #getReadUrls()}.
+ */
+public class MySQLTopologyRule extends ExternalResource {
+
+    private static final String REPLICATION_USER = "repl";
+    private static final String REPLICATION_PASSWORD = "repl";
+    private static final long DEFAULT_REPLICATION_TIMEOUT_SECONDS = 30;
+
+    private final MysqlBinaryLoader loader;
+
+    private final List<MySQLProcess> mysqldProcesses = new ArrayList<>();
+    private final List<Path> mysqlRootDirectories = new ArrayList<>();
+    private final List<Integer> ports = new ArrayList<>();
+    private final int replicaCount;
+    private final boolean debug;
+
+    private final String dbName;
+    private final String dbUser;
+    private final String dbPassword;
+
+    /**
+     * Creates a default instance of the rule with the given number of replicas.
+     * DB Name: service
+     * DB User: test
+     * DB Password: test
+     *
+     * Uses the default mysql binary loader which expects mysql to be installed at /opt/mysql-rule/binary/
+     *
+     * @param replicaCount The number of replicas to start alongside the primary.
+     * @return An initialized MySQLTopologyRule instance.
+     */
+    public static MySQLTopologyRule defaultRule(int replicaCount) {
+        return new MySQLTopologyRule("service", "test", "test", replicaCount, false, new LocalFile());
+    }
+
+    /**
+     * Creates an instance of the rule with the provided parameters.
+     *
+     * @param dbName The database name to initialize
+     * @param dbUser The user to create during setup
+     * @param dbPassword The password to assign to the given user.
+     * @param replicaCount The number of replicas to start alongside the primary.
+     * @param debug If True pipes the mysql startup of every server to the hosting JVM stderr and stdout.
+     * @param loader An implementation of {@link MysqlBinaryLoader} that returns the location of a mysql install.
+     * @return An initialized MySQLTopologyRule instance.
+     */
+    public static MySQLTopologyRule rule(String dbName, String dbUser, String dbPassword,
+                                         int replicaCount, boolean debug, MysqlBinaryLoader loader) {
+        return new MySQLTopologyRule(dbName, dbUser, dbPassword, replicaCount, debug, loader);
+    }
+
+    private MySQLTopologyRule(String dbName, String dbUser, String dbPassword,
+                              int replicaCount, boolean debug, MysqlBinaryLoader loader) {
+        if (replicaCount < 1) {
+            throw new IllegalArgumentException(String.format("At least one replica is required: %s", replicaCount));
+        }
+        this.dbName = dbName;
+        this.dbUser = dbUser;
+        this.dbPassword = dbPassword;
+        this.replicaCount = replicaCount;
+        this.debug = debug;
+        this.loader = loader;
+        for (int i = 0; i <= replicaCount; i++) {
+            this.ports.add(SocketUtil.findFreePort());
+        }
+    }
+
+    /**
+     * @return The port of the primary.
+     */
+    public int getPrimaryPort() {
+        return this.ports.get(0);
+    }
+
+    /**
+     * @return The ports of the replicas, in replica index order.
+     */
+    public List<Integer> getReplicaPorts() {
+        return Collections.unmodifiableList(this.ports.subList(1, this.ports.size()));
+    }
+
+    /**
+     * @return The number of replicas.
+     */
+    public int getReplicaCount() {
+        return this.replicaCount;
+    }
+
+    /**
+     * @return The configured DB Name.
+     */
+    public String getDbName() {
+        return this.dbName;
+    }
+
+    /**
+     * @return The configured DB user.
+     */
+    public String getDbUser() {
+        return this.dbUser;
+    }
+
+    /**
+     * @return The configured DB password.
+     */
+    public String getDbPassword() {
+        return this.dbPassword;
+    }
+
+    /**
+     * @return A jdbc connection string for the primary.
+     */
+    public String getWriteUrl() {
+        return buildDbUrl(getPrimaryPort());
+    }
+
+    /**
+     * @param replica The replica index, from 0 to {@code getReplicaCount() - 1}.
+     * @return A jdbc connection string for the given replica.
+     */
+    public String getReadUrl(int replica) {
+        return buildDbUrl(getReplicaPorts().get(replica));
+    }
+
+    /**
+     * @return Jdbc connection strings for every replica, in replica index order.
+     */
+    public List<String> getReadUrls() {
+        List<String> urls = new ArrayList<>();
+        for (int i = 0; i < this.replicaCount; i++) {
+            urls.add(getReadUrl(i));
+        }
+        return urls;
+    }
+
+    /**
+     * Blocks until every replica has applied all transactions committed on the primary so far, waiting up to 30
+     * seconds.
+     */
+    public void awaitReplication() {
+        awaitReplication(DEFAULT_REPLICATION_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Blocks until every replica has applied all transactions committed on the primary so far.
+     *
+     * Replicas with a delay set via {@link #setReplicationDelay(int, int)} will take at least that long.
+     *
+     * @param timeout The maximum time to wait for each replica.
+     * @param unit The unit of timeout.
+     */
+    public void awaitReplication(long timeout, TimeUnit unit) {
+        // Batch output escapes the newlines mysql puts between uuids in a multi source gtid set.
+        String gtidSet = primary().sendClientQuery("SELECT @@GLOBAL.gtid_executed;")
+                .replace("\\n", "")
+                .replace("\n", "");
+        long seconds = Math.max(1, unit.toSeconds(timeout));
+        for (int i = 0; i < this.replicaCount; i++) {
+            // Wait a second at a time so each client call stays well inside the client query timeout.
+            String result = "";
+            for (long waited = 0; waited < seconds && !"0".equals(result); waited++) {
+                result = replica(i).sendClientQuery(
+                        String.format("SELECT WAIT_FOR_EXECUTED_GTID_SET('%s', 1);", gtidSet));
+            }
+            if (!"0".equals(result)) {
+                throw new RuntimeException(String.format(
+                        "Replica %s did not catch up to %s in %s seconds: %s", i, gtidSet, seconds, result));
+            }
+        }
+    }
+
+    /**
+     * Makes a replica lag the primary by applying each transaction no sooner than the given delay after it was
+     * committed on the primary. Use 0 to remove the delay.
+     *
+     * @param replica The replica index, from 0 to {@code getReplicaCount() - 1}.
+     * @param seconds The delay in seconds.
+     */
+    public void setReplicationDelay(int replica, int seconds) {
+        replica(replica).sendClientCommands(
+                "STOP SLAVE SQL_THREAD;",
+                String.format("CHANGE MASTER TO MASTER_DELAY = %s;", seconds),
+                "START SLAVE SQL_THREAD;");
+    }
+
+    protected void before() throws Throwable {
+        File binaryRoot = loader.load()
+                .orElseThrow(() -> new RuntimeException("Unable to load mysql binary."));
+
+        Path templatePath = new File("/opt/mysql-rule/template").toPath();
+
+        try {
+            for (int i = 0; i <= this.replicaCount; i++) {
+                Path mysqlRootDirectory = Files.createTempDirectory(
+                        buildDataPrefix(),
+                        PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwxrwx---")));
+                this.mysqlRootDirectories.add(mysqlRootDirectory);
+                this.mysqldProcesses.add(new InitViaTemplateMySQLProcess(
+                        new LocalhostMySQLProcess(
+                                mysqlRootDirectory,
+                                binaryRoot,
+                                this.ports.get(i),
+                                this.debug,
+                                buildReplicationArguments(i)),
+                        mysqlRootDirectory,
+                        templatePath));
+            }
+
+            startAll();
+
+            primary().sendClientCommands(
+                    String.format("CREATE USER '%s'@'%%' IDENTIFIED BY '%s';",
+                            REPLICATION_USER, REPLICATION_PASSWORD),
+                    String.format("GRANT REPLICATION SLAVE ON *.* TO '%s'@'%%';", REPLICATION_USER),
+                    String.format("CREATE DATABASE %s;", this.dbName),
+                    String.format("CREATE USER '%s'@'localhost' IDENTIFIED BY '%s';", this.dbUser, this.dbPassword),
+                    String.format("GRANT ALL ON %s.* TO '%s'@'localhost';", this.dbName, this.dbUser)
+            );
+
+            for (int i = 0; i < this.replicaCount; i++) {
+                replica(i).sendClientCommands(
+                        String.format("CHANGE MASTER TO MASTER_HOST = '127.0.0.1', MASTER_PORT = %s, "
+                                        + "MASTER_USER = '%s', MASTER_PASSWORD = '%s', MASTER_AUTO_POSITION = 1;",
+                                getPrimaryPort(), REPLICATION_USER, REPLICATION_PASSWORD),
+                        "START SLAVE;");
+            }
+
+            awaitReplication();
+        }
+        catch (Exception e) {
+            after();
+            throw e;
+        }
+    }
+
+    protected void after() {
+        for (int i = 0; i < this.mysqlRootDirectories.size(); i++) {
+            Path mysqlRootDirectory = this.mysqlRootDirectories.get(i);
+            try {
+                if (i < this.mysqldProcesses.size()) {
+                    this.mysqldProcesses.get(i).stopAndCleanup();
+                    continue;
+                }
+            }
+            catch (IllegalStateException e) {
+                // Never started, only the root directory is left to remove.
+            }
+            if (mysqlRootDirectory.toFile().exists()) {
+                FileUtil.deleteDirectory(mysqlRootDirectory);
+            }
+        }
+        this.mysqldProcesses.clear();
+        this.mysqlRootDirectories.clear();
+    }
+
+    /**
+     * Starts every server concurrently so the topology is up in roughly the time it takes to start one.
+     *
+     * Waits for every start to finish, even after one fails, so cleanup never races a server that is still
+     * coming up.
+     */
+    private void startAll() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(this.mysqldProcesses.size());
+        try {
+            List<Future<Process>> futures = new ArrayList<>();
+            for (MySQLProcess process : this.mysqldProcesses) {
+                futures.add(executor.submit(process::startAndWait));
+            }
+            RuntimeException failure = null;
+            for (Future<Process> future : futures) {
+                try {
+                    future.get();
+                }
+                catch (ExecutionException e) {
+                    if (failure == null) {
+                        failure = new RuntimeException(e.getCause());
+                    }
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+        finally {
+            executor.shutdownNow();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+    }
+
+    private MySQLProcess primary() {
+        return this.mysqldProcesses.get(0);
+    }
+
+    private MySQLProcess replica(int replica) {
+        if (replica < 0 || replica >= this.replicaCount) {
+            throw new IllegalArgumentException(String.format("No such replica: %s", replica));
+        }
+        return this.mysqldProcesses.get(replica + 1);
+    }
+
+    private List<String> buildReplicationArguments(int index) {
+        List<String> arguments = new ArrayList<>(Arrays.asList(
+                String.format("--server-id=%s", index + 1),
+                "--log-bin=mysql-bin",
+                "--log-slave-updates",
+                "--gtid-mode=ON",
+                "--enforce-gtid-consistency=ON"));
+        if (index > 0) {
+            arguments.addAll(Arrays.asList(
+                    "--relay-log=relay-bin",
+                    "--skip-slave-start",
+                    "--read-only"));
+        }
+        return arguments;
+    }
+
+    private String buildDbUrl(int port) {
+        return String.format("jdbc:mysql://localhost:%s/%s?autoReconnect=true&useSSL=false", port, this.dbName);
+    }
+
+    private String buildDataPrefix() {
+        return "mysql-test-topology-rule";
+    }
+}
@@ -0,0 +1,152 @@
+package com.upside.test.mysql.core;
+
+/**
+ * Extends startup to wait for the InnoDB buffer pool load to finish, so the first queries run against a warm pool.
+ *
+ * mysqld loads the ib_buffer_pool dump shipped in the template data directory asynchronously at startup. The
+ * template dump is produced by bin/warm-template.sh and only covers the template's InnoDB system tables, databases
+ * created after startup are never part of it. If the template has no dump there is nothing to load and startup
+ * does not wait.
+ *
+ * Delegates the bits of starting an actual mysqld to another implementation.
+ */
+public class BufferPoolWarmupMySQLProcess implements MySQLProcess {
+    private static final String LOAD_STATUS = "Innodb_buffer_pool_load_status";
+    private static final String PAGES_DATA = "Innodb_buffer_pool_pages_data";
+    private static final String PAGES_TOTAL = "Innodb_buffer_pool_pages_total";
+
+    private final MySQLProcess delegate;
+    private final int attempts;
+
+    private String loadStatus;
+    private long pagesData;
+    private long pagesTotal;
+
+    /**
+     * @param delegate The process to start.
+     * @param attempts The number of times to check the load status, 100ms apart, before giving up.
+     */
+    public BufferPoolWarmupMySQLProcess(MySQLProcess delegate, int attempts) {
+        this.delegate = delegate;
+        this.attempts = attempts;
+    }
+
+    public BufferPoolWarmupMySQLProcess(MySQLProcess delegate) {
+        this(delegate, 200);
+    }
+
+    @Override
+    public void sendClientCommands(String... commands) {
+        this.delegate.sendClientCommands(commands);
+    }
+
+    @Override
+    public String sendClientQuery(String query) {
+        return this.delegate.sendClientQuery(query);
+    }
+
+    /**
+     * Starts the delegate then waits for the buffer pool load to complete.
+     *
+     * @return The process instance created.
+     */
+    @Override
+    public Process startAndWait() {
+        Process process = this.delegate.startAndWait();
+        if (!waitForLoad()) {
+            throw new RuntimeException(
+                    String.format("Buffer pool load did not complete in time: %s", this.loadStatus));
+        }
+        this.pagesData = readPages(PAGES_DATA);
+        this.pagesTotal = readPages(PAGES_TOTAL);
+        return process;
+    }
+
+    @Override
+    public Process stopAndCleanup() {
+        return this.delegate.stopAndCleanup();
+    }
+
+    /**
+     * @return The final value of Innodb_buffer_pool_load_status. Only valid after {@code startAndWait()}.
+     */
+    public String getLoadStatus() {
+        return this.loadStatus;
+    }
+
+    /**
+     * @return The number of buffer pool pages holding data once the load finished.
+     */
+    public long getPagesData() {
+        return this.pagesData;
+    }
+
+    /**
+     * @return The total number of buffer pool pages.
+     */
+    public long getPagesTotal() {
+        return this.pagesTotal;
+    }
+
+    private boolean waitForLoad() {
+        int count = 0;
+        while (count < this.attempts) {
+            this.loadStatus = readStatus(LOAD_STATUS);
+            if (isLoadFailed(this.loadStatus)) {
+                throw new RuntimeException(String.format("Buffer pool load failed: %s", this.loadStatus));
+            }
+            if (isLoadFinished(this.loadStatus)) {
+                return true;
+            }
+            wait100MS();
+            count++;
+        }
+        return false;
+    }
+
+    /**
+     * A missing dump file reports "Cannot open ..." and an interrupted load reports "... aborted", neither will
+     * progress any further. "not started" only means the load thread hasn't begun yet, keep polling.
+     */
+    private static boolean isLoadFinished(String status) {
+        return status.startsWith("Buffer pool(s) load completed")
+                || status.startsWith("Cannot open")
+                || status.contains("aborted");
+    }
+
+    /**
+     * A corrupt or unreadable dump reports "Error ..." or "Could not ...", waiting longer won't change that.
+     */
+    private static boolean isLoadFailed(String status) {
+        return status.startsWith("Error")
+                || status.startsWith("Could not");
+    }
+
+    private long readPages(String name) {
+        String value = readStatus(name);
+        try {
+            return Long.parseLong(value);
+        }
+        catch (NumberFormatException e) {
+            throw new RuntimeException(String.format("Unexpected value for %s: %s", name, value), e);
+        }
+    }
+
+    private String readStatus(String name) {
+        String row = this.delegate.sendClientQuery(String.format("SHOW GLOBAL STATUS LIKE '%s';", name));
+        int separator = row.indexOf('\t');
+        if (separator < 0) {
+            throw new RuntimeException(String.format("Unable to read status %s: %s", name, row));
+        }
+        return row.substring(separator + 1).trim();
+    }
+
+    private static void wait100MS() {
+        try {
+            Thread.sleep(100);
+        }
+        catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
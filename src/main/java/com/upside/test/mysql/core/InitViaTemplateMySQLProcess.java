@@ -32,6 +32,11 @@ public class InitViaTemplateMySQLProcess implements MySQLProcess {
         this.delegate.sendClientCommands(commands);
     }
 
+    @Override
+    public String sendClientQuery(String query) {
+        return this.delegate.sendClientQuery(query);
+    }
+
     @Override
     public Process startAndWait() {
         this.copyTemplate();
@@ -46,6 +51,9 @@ public class InitViaTemplateMySQLProcess implements MySQLProcess {
     private void copyTemplate() {
         if (this.templateRoot.toFile().exists()) {
             FileUtil.copyDirectory(this.templateRoot, this.mysqlRootDirectory);
+            // auto.cnf holds the server_uuid, drop it so every copy generates its own. Replication refuses to
+            // connect servers that share a uuid.
+            this.mysqlRootDirectory.resolve("data").resolve("auto.cnf").toFile().delete();
         }
         else {
             throw new RuntimeException(
@@ -9,6 +9,10 @@ import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -20,6 +24,7 @@ import java.util.concurrent.TimeUnit;
  *
  * 1. Binds only to localhost.
  * 2. Uses default timezone of UTC.
+ * 3. Loads the ib_buffer_pool dump in the data directory at startup, if present, and skips the dump at shutdown.
  */
 public class LocalhostMySQLProcess implements MySQLProcess {
     private final Path rootDirectory;
@@ -32,6 +37,14 @@ public class LocalhostMySQLProcess implements MySQLProcess {
     private Process process;
 
     public LocalhostMySQLProcess(Path mysqlRoot, File binaryRoot, int port, boolean debug) {
+        this(mysqlRoot, binaryRoot, port, debug, Collections.emptyList());
+    }
+
+    /**
+     * @param additionalArguments Extra mysqld options appended after the defaults, e.g. {@code --server-id=2}.
+     */
+    public LocalhostMySQLProcess(Path mysqlRoot, File binaryRoot, int port, boolean debug,
+                                 List<String> additionalArguments) {
         this.rootDirectory = mysqlRoot;
 
         this.binaryPath = new File(binaryRoot, "bin/mysqld").getAbsolutePath();
@@ -44,27 +57,26 @@ public class LocalhostMySQLProcess implements MySQLProcess {
         String dataPath = new File(mysqlRoot.toFile(), "data").getAbsolutePath();
         String socketFile = new File(mysqlRoot.toFile(), "socket").getAbsolutePath();
 
-        this.processBuilder = enableDebug(new ProcessBuilder(
+        List<String> command = new ArrayList<>(Arrays.asList(
                 binaryPath,
                 "--bind-address=localhost",
                 String.format("--basedir=%s", basePath),
                 String.format("--port=%s", port),
                 "--default-time-zone=+00:00",
+                "--innodb-buffer-pool-load-at-startup=ON",
+                "--innodb-buffer-pool-dump-at-shutdown=OFF",
                 String.format("--socket=%s", socketFile),
-                String.format("--datadir=%s", dataPath))
+                String.format("--datadir=%s", dataPath)));
+        command.addAll(additionalArguments);
+
+        this.processBuilder = enableDebug(new ProcessBuilder(command)
                 .directory(mysqlRoot.toFile()), debug);
     }
 
     @Override
     public void sendClientCommands(String... commands) {
         final Process clientProcess;
-        clientProcess = ProcessUtil.startBuilder(new ProcessBuilder(
-                this.clientBinaryPath,
-                String.format("--port=%s", this.port),
-                "--protocol=TCP",
-                "--user=root",
-                "--password=")
-                .directory(this.rootDirectory.toFile()));
+        clientProcess = ProcessUtil.startBuilder(clientProcessBuilder());
 
         final PrintWriter writer = new PrintWriter(
                 new OutputStreamWriter(
@@ -76,6 +88,16 @@ public class LocalhostMySQLProcess implements MySQLProcess {
         ProcessUtil.waitFor(clientProcess);
     }
 
+    @Override
+    public String sendClientQuery(String query) {
+        return ProcessUtil.runForOutput(
+                clientProcessBuilder(
+                        "--batch",
+                        "--skip-column-names",
+                        String.format("--execute=%s", query)),
+                String.format("Query '%s' on port %s", query, this.port));
+    }
+
    /**
      * Attempts to start the mysql process then wait for it to respond to mysqladmin ping for ~20 seconds.
      *
@@ -110,6 +132,17 @@ public class LocalhostMySQLProcess implements MySQLProcess {
         return this.process;
     }
 
+    private ProcessBuilder clientProcessBuilder(String... additionalArguments) {
+        List<String> command = new ArrayList<>(Arrays.asList(
+                this.clientBinaryPath,
+                String.format("--port=%s", this.port),
+                "--protocol=TCP",
+                "--user=root",
+                "--password="));
+        command.addAll(Arrays.asList(additionalArguments));
+        return new ProcessBuilder(command).directory(this.rootDirectory.toFile());
+    }
+
     private ProcessBuilder enableDebug(ProcessBuilder processBuilder, boolean debug) {
         if (debug) {
             processBuilder = processBuilder.redirectError(ProcessBuilder.Redirect.INHERIT)
@@ -24,6 +24,19 @@ public interface MySQLProcess {
      */
     void sendClientCommands(String... commands);
 
+    /**
+     * Runs a single query against the running mysqld instance and returns its output.
+     *
+     * Calling this method before startAndWait() has retunred has undefined results.
+     *
+     * Output is in mysql client batch format without column names: one row per line, columns separated by tabs.
+     *
+     * @param query The query to execute.
+     * @return The query output with surrounding whitespace removed.
+     * @throws RuntimeException If the query fails, with the client's error output.
+     */
+    String sendClientQuery(String query);
+
     /**
      * Starts the mysqld process and waits for mysqld to transition to fully online.
      *
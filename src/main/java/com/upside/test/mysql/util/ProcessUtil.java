@@ -1,6 +1,9 @@
 package com.upside.test.mysql.util;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -18,6 +21,46 @@ public final class ProcessUtil {
         }
     }
 
+    /**
+     * Runs the process to completion and returns its standard output.
+     *
+     * Output is captured to temporary files rather than pipes so the 10 second timeout applies even if the process
+     * never closes its output.
+     *
+     * @param builder The process to run.
+     * @param description Describes the process in exception messages, e.g. the query being run.
+     * @return The standard output with surrounding whitespace removed.
+     * @throws RuntimeException If the process times out or exits non zero, with its standard error.
+     */
+    public static String runForOutput(ProcessBuilder builder, String description) {
+        File output = null;
+        File error = null;
+        try {
+            output = File.createTempFile("process-output", ".txt");
+            error = File.createTempFile("process-error", ".txt");
+            Process process = startBuilder(builder
+                    .redirectOutput(output)
+                    .redirectError(error));
+
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+                throw new RuntimeException(String.format("%s timed out.", description));
+            }
+            if (process.exitValue() != 0) {
+                throw new RuntimeException(String.format("%s failed with exit code %s: %s",
+                        description, process.exitValue(), readFile(error)));
+            }
+            return readFile(output);
+        }
+        catch (IOException | InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+        finally {
+            deleteIfPresent(output);
+            deleteIfPresent(error);
+        }
+    }
+
     public static Process startBuilder(ProcessBuilder builder) {
         try {
             return builder.start();
@@ -26,4 +69,14 @@ public final class ProcessUtil {
             throw new RuntimeException(e);
         }
     }
+
+    private static String readFile(File file) throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8).trim();
+    }
+
+    private static void deleteIfPresent(File file) {
+        if (file != null) {
+            file.delete();
+        }
+    }
 }
@@ -0,0 +1,123 @@
+package com.upside.test.mysql.workload;
+
+/**
+ * Log-linear latency histogram in the style of HdrHistogram.
+ *
+ * Values below 128 are recorded exactly, larger values land in buckets whose width is 1/64th of their magnitude,
+ * bounding the reported error to ~1.6% across the full range of a long. Not thread safe, each workload worker
+ * records into its own instance and the results are merged once the run completes.
+ */
+public final class LatencyHistogram {
+    private static final int LINEAR_BUCKETS = 128;
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_SHIFT = 63 - SUB_BUCKET_BITS;
+
+    private final long[] counts = new long[LINEAR_BUCKETS + MAX_SHIFT * SUB_BUCKETS];
+    private long totalCount;
+    private long totalValue;
+    private long min = Long.MAX_VALUE;
+    private long max;
+
+    /**
+     * Records a single value.
+     *
+     * @param value The value to record, typically a latency in nanoseconds. Must not be negative.
+     */
+    public void record(long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException(String.format("Negative value: %s", value));
+        }
+        this.counts[indexFor(value)]++;
+        this.totalCount++;
+        this.totalValue += value;
+        this.min = Math.min(this.min, value);
+        this.max = Math.max(this.max, value);
+    }
+
+    /**
+     * Adds all values recorded by another histogram to this one.
+     *
+     * @param other The histogram to merge in.
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < this.counts.length; i++) {
+            this.counts[i] += other.counts[i];
+        }
+        this.totalCount += other.totalCount;
+        this.totalValue += other.totalValue;
+        this.min = Math.min(this.min, other.min);
+        this.max = Math.max(this.max, other.max);
+    }
+
+    /**
+     * @return The number of recorded values.
+     */
+    public long getTotalCount() {
+        return this.totalCount;
+    }
+
+    /**
+     * @return The smallest recorded value, or 0 if empty.
+     */
+    public long getMin() {
+        return this.totalCount == 0 ? 0 : this.min;
+    }
+
+    /**
+     * @return The largest recorded value, or 0 if empty.
+     */
+    public long getMax() {
+        return this.max;
+    }
+
+    /**
+     * @return The mean of all recorded values, or 0 if empty.
+     */
+    public double getMean() {
+        return this.totalCount == 0 ? 0 : (double) this.totalValue / this.totalCount;
+    }
+
+    /**
+     * Returns the value at the given percentile.
+     *
+     * @param percentile Percentile between 0 and 100, e.g. 99.9.
+     * @return The highest value equivalent to the percentile's bucket, capped at the recorded max. 0 if empty.
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException(String.format("Percentile out of range: %s", percentile));
+        }
+        if (this.totalCount == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * this.totalCount));
+        long seen = 0;
+        for (int i = 0; i < this.counts.length; i++) {
+            seen += this.counts[i];
+            if (seen >= target) {
+                return Math.min(highestEquivalentValue(i), this.max);
+            }
+        }
+        return this.max;
+    }
+
+    private static int indexFor(long value) {
+        if (value < LINEAR_BUCKETS) {
+            return (int) value;
+        }
+        int shift = (63 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+        return LINEAR_BUCKETS + (shift - 1) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long highestEquivalentValue(int index) {
+        if (index < LINEAR_BUCKETS) {
+            return index;
+        }
+        int shift = (index - LINEAR_BUCKETS) / SUB_BUCKETS + 1;
+        long subBucket = (index - LINEAR_BUCKETS) % SUB_BUCKETS + SUB_BUCKETS;
+        long highest = ((subBucket + 1) << shift) - 1;
+        return highest < 0 ? Long.MAX_VALUE : highest;
+    }
+}
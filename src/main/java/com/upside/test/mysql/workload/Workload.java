@@ -0,0 +1,357 @@
+package com.upside.test.mysql.workload;
+
+import com.upside.test.mysql.MySQLRule;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drives a weighted mix of operations against a mysqld instance from a fixed number of workers and measures
+ * throughput and latency.
+ *
+ * Each worker opens its own connection, runs the optional warmup phase, then all workers start the measured phase
+ * together. The measured phase ends after a fixed duration or once a fixed number of operations has been issued
+ * across all workers.
+ *
+ * Example:
+ *
+ * <code>
+ * WorkloadResult result = Workload.against(this.rule)
+ *         .operation("select", 9, WorkloadOperation.sql("SELECT * FROM account WHERE id = 1"))
+ *         .operation("insert", 1, connection -> insertAccount(connection))
+ *         .threads(8)
+ *         .warmup(2, TimeUnit.SECONDS)
+ *         .duration(10, TimeUnit.SECONDS)
+ *         .build()
+ *         .run();
+ * </code>
+ *
+ * A JDBC driver for mysql must be on the classpath.
+ */
+public final class Workload {
+    private final String dbUrl;
+    private final String dbUser;
+    private final String dbPassword;
+    private final List<String> names;
+    private final List<WorkloadOperation> operations;
+    private final int[] cumulativeWeights;
+    private final int threads;
+    private final ThreadFactory threadFactory;
+    private final long warmupNanos;
+    private final long durationNanos;
+    private final long operationLimit;
+
+    /**
+     * Creates a workload builder targeting the mysqld instance started by the given rule.
+     *
+     * The rule's url and credentials are read immediately. Run the workload from within a test so the rule's mysqld
+     * is up.
+     *
+     * @param rule The rule whose mysqld to target.
+     * @return A builder for the workload.
+     */
+    public static Builder against(MySQLRule rule) {
+        return new Builder(rule.getDbUrl(), rule.getDbUser(), rule.getDbPassword());
+    }
+
+    /**
+     * Creates a workload builder targeting an arbitrary jdbc url.
+     *
+     * @param dbUrl The jdbc url each worker connects to.
+     * @param dbUser The user to connect as.
+     * @param dbPassword The password for the user.
+     * @return A builder for the workload.
+     */
+    public static Builder against(String dbUrl, String dbUser, String dbPassword) {
+        return new Builder(dbUrl, dbUser, dbPassword);
+    }
+
+    private Workload(Builder builder) {
+        this.dbUrl = builder.dbUrl;
+        this.dbUser = builder.dbUser;
+        this.dbPassword = builder.dbPassword;
+        this.names = new ArrayList<>(builder.names);
+        this.operations = new ArrayList<>(builder.operations);
+        this.cumulativeWeights = new int[builder.weights.size()];
+        int total = 0;
+        for (int i = 0; i < this.cumulativeWeights.length; i++) {
+            total += builder.weights.get(i);
+            this.cumulativeWeights[i] = total;
+        }
+        this.threads = builder.threads;
+        this.threadFactory = builder.threadFactory;
+        this.warmupNanos = builder.warmupNanos;
+        this.durationNanos = builder.durationNanos;
+        this.operationLimit = builder.operationLimit;
+    }
+
+    /**
+     * Runs the warmup and measured phases, blocking until all workers finish.
+     *
+     * @return The measurements taken during the measured phase.
+     */
+    public WorkloadResult run() {
+        AtomicLong measureStart = new AtomicLong();
+        // Phase 0 ends once every worker has connected, phase 1 once every worker has finished warmup. A failed
+        // worker deregisters so the remaining workers never wait on it.
+        Phaser phaser = new Phaser(this.threads) {
+            @Override
+            protected boolean onAdvance(int phase, int registeredParties) {
+                if (phase == 1) {
+                    measureStart.set(System.nanoTime());
+                }
+                return registeredParties == 0;
+            }
+        };
+        AtomicBoolean failed = new AtomicBoolean();
+        AtomicLong issued = new AtomicLong();
+
+        ExecutorService executor = Executors.newFixedThreadPool(this.threads, this.threadFactory);
+        try {
+            List<Future<Worker>> futures = new ArrayList<>();
+            for (int i = 0; i < this.threads; i++) {
+                futures.add(executor.submit(new Worker(phaser, failed, measureStart, issued)));
+            }
+
+            LatencyHistogram latency = new LatencyHistogram();
+            Map<String, LatencyHistogram> latencyByOperation = new LinkedHashMap<>();
+            for (String name : this.names) {
+                latencyByOperation.put(name, new LatencyHistogram());
+            }
+            long errors = 0;
+            long elapsedNanos = 0;
+            for (Future<Worker> future : futures) {
+                Worker worker = future.get();
+                for (int i = 0; i < worker.latencies.length; i++) {
+                    latency.add(worker.latencies[i]);
+                    latencyByOperation.get(this.names.get(i)).add(worker.latencies[i]);
+                }
+                errors += worker.errors;
+                elapsedNanos = Math.max(elapsedNanos, worker.measureFinished - measureStart.get());
+            }
+
+            return new WorkloadResult(elapsedNanos, errors, latency, latencyByOperation);
+        }
+        catch (InterruptedException | ExecutionException e) {
+            throw new RuntimeException(e);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private int pickOperation() {
+        int total = this.cumulativeWeights[this.cumulativeWeights.length - 1];
+        int target = ThreadLocalRandom.current().nextInt(total);
+        int index = 0;
+        while (this.cumulativeWeights[index] <= target) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * A single worker, returned from its own call() so results can be merged once the run completes.
+     */
+    private final class Worker implements Callable<Worker> {
+        private final Phaser phaser;
+        private final AtomicBoolean failed;
+        private final AtomicLong measureStart;
+        private final AtomicLong issued;
+
+        private final LatencyHistogram[] latencies = new LatencyHistogram[operations.size()];
+        private long errors;
+        private long measureFinished;
+
+        private Worker(Phaser phaser, AtomicBoolean failed, AtomicLong measureStart, AtomicLong issued) {
+            this.phaser = phaser;
+            this.failed = failed;
+            this.measureStart = measureStart;
+            this.issued = issued;
+            for (int i = 0; i < this.latencies.length; i++) {
+                this.latencies[i] = new LatencyHistogram();
+            }
+        }
+
+        @Override
+        public Worker call() throws SQLException {
+            try (Connection connection = DriverManager.getConnection(dbUrl, dbUser, dbPassword)) {
+                this.phaser.arriveAndAwaitAdvance();
+                long warmupEnd = System.nanoTime() + warmupNanos;
+                while (!this.failed.get() && System.nanoTime() - warmupEnd < 0) {
+                    execute(connection, pickOperation(), false);
+                }
+
+                this.phaser.arriveAndAwaitAdvance();
+                long measureEnd = this.measureStart.get() + durationNanos;
+                while (!this.failed.get() && (operationLimit > 0
+                        ? this.issued.incrementAndGet() <= operationLimit
+                        : System.nanoTime() - measureEnd < 0)) {
+                    execute(connection, pickOperation(), true);
+                }
+                // Taken before the connection closes so teardown isn't counted against throughput.
+                this.measureFinished = System.nanoTime();
+            }
+            catch (Throwable e) {
+                // Stop the other workers and stop them waiting on this one so the run fails rather than hangs.
+                this.failed.set(true);
+                this.phaser.arriveAndDeregister();
+                throw e;
+            }
+            return this;
+        }
+
+        /**
+         * Operation failures, checked or not, count as errors. Only an {@link Error} ends the run.
+         */
+        private void execute(Connection connection, int index, boolean record) {
+            long start = System.nanoTime();
+            try {
+                operations.get(index).execute(connection);
+            }
+            catch (SQLException | RuntimeException e) {
+                if (record) {
+                    this.errors++;
+                }
+                return;
+            }
+            if (record) {
+                this.latencies[index].record(System.nanoTime() - start);
+            }
+        }
+    }
+
+    /**
+     * Builder for {@link Workload}. At least one operation is required. Defaults to a single thread, no warmup and
+     * a ten second measured phase.
+     */
+    public static final class Builder {
+        private final String dbUrl;
+        private final String dbUser;
+        private final String dbPassword;
+        private final List<String> names = new ArrayList<>();
+        private final List<Integer> weights = new ArrayList<>();
+        private final List<WorkloadOperation> operations = new ArrayList<>();
+        private int threads = 1;
+        private ThreadFactory threadFactory = Executors.defaultThreadFactory();
+        private long warmupNanos;
+        private long durationNanos = TimeUnit.SECONDS.toNanos(10);
+        private long operationLimit;
+
+        private Builder(String dbUrl, String dbUser, String dbPassword) {
+            this.dbUrl = dbUrl;
+            this.dbUser = dbUser;
+            this.dbPassword = dbPassword;
+        }
+
+        /**
+         * Adds an operation to the mix.
+         *
+         * @param name Name used to report the operation's latency, must be unique.
+         * @param weight Relative frequency of the operation, must be positive.
+         * @param operation The operation to execute.
+         * @return This builder.
+         */
+        public Builder operation(String name, int weight, WorkloadOperation operation) {
+            if (weight <= 0) {
+                throw new IllegalArgumentException(String.format("Weight must be positive: %s", weight));
+            }
+            if (this.names.contains(name)) {
+                throw new IllegalArgumentException(String.format("Duplicate operation name: %s", name));
+            }
+            this.names.add(name);
+            this.weights.add(weight);
+            this.operations.add(operation);
+            return this;
+        }
+
+        /**
+         * @param threads The number of concurrent workers, each with its own connection.
+         * @return This builder.
+         */
+        public Builder threads(int threads) {
+            if (threads <= 0) {
+                throw new IllegalArgumentException(String.format("Threads must be positive: %s", threads));
+            }
+            this.threads = threads;
+            return this;
+        }
+
+        /**
+         * Sets the factory used to create worker threads. Pass a virtual thread factory on runtimes that support
+         * them to drive many more workers than platform threads allow.
+         *
+         * @param threadFactory The factory for worker threads.
+         * @return This builder.
+         */
+        public Builder threadFactory(ThreadFactory threadFactory) {
+            this.threadFactory = threadFactory;
+            return this;
+        }
+
+        /**
+         * @param warmup How long each worker runs the mix before measuring. Warmup results are discarded.
+         * @param unit The unit of warmup.
+         * @return This builder.
+         */
+        public Builder warmup(long warmup, TimeUnit unit) {
+            this.warmupNanos = unit.toNanos(warmup);
+            return this;
+        }
+
+        /**
+         * Measures for a fixed duration. Replaces any operation count set via {@link #operations(long)}.
+         *
+         * @param duration How long to measure.
+         * @param unit The unit of duration.
+         * @return This builder.
+         */
+        public Builder duration(long duration, TimeUnit unit) {
+            this.durationNanos = unit.toNanos(duration);
+            this.operationLimit = 0;
+            return this;
+        }
+
+        /**
+         * Measures a fixed number of operations across all workers. Replaces any duration set via
+         * {@link #duration(long, TimeUnit)}.
+         *
+         * @param operationLimit The total number of operations to issue.
+         * @return This builder.
+         */
+        public Builder operations(long operationLimit) {
+            if (operationLimit <= 0) {
+                throw new IllegalArgumentException(
+                        String.format("Operation count must be positive: %s", operationLimit));
+            }
+            this.operationLimit = operationLimit;
+            return this;
+        }
+
+        /**
+         * @return The configured workload.
+         */
+        public Workload build() {
+            if (this.operations.isEmpty()) {
+                throw new IllegalStateException("At least one operation is required.");
+            }
+            return new Workload(this);
+        }
+    }
+}
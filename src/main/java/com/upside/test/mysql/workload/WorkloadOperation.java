@@ -0,0 +1,44 @@
+package com.upside.test.mysql.workload;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * A single unit of work executed by a {@link Workload} worker.
+ *
+ * Each worker owns its connection for the life of the run, so implementations may prepare statements freely
+ * but should not close the connection.
+ */
+@FunctionalInterface
+public interface WorkloadOperation {
+    /**
+     * Executes the operation once.
+     *
+     * @param connection The worker's connection to the target mysqld.
+     * @throws SQLException Counted as an error by the workload, the run continues. Unchecked exceptions, e.g. from
+     *                      a DAO layer, are counted the same way. Only an {@link Error} ends the run.
+     */
+    void execute(Connection connection) throws SQLException;
+
+    /**
+     * Creates an operation that executes the given sql statement, reading through any returned result set.
+     *
+     * @param sql The statement to execute.
+     * @return An operation wrapping the statement.
+     */
+    static WorkloadOperation sql(String sql) {
+        return connection -> {
+            try (Statement statement = connection.createStatement()) {
+                if (statement.execute(sql)) {
+                    try (ResultSet resultSet = statement.getResultSet()) {
+                        while (resultSet.next()) {
+                            // Drain so the server side work is included in the measured latency.
+                        }
+                    }
+                }
+            }
+        };
+    }
+}
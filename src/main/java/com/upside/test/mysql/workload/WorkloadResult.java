@@ -0,0 +1,96 @@
+package com.upside.test.mysql.workload;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput and latency measured during the timed phase of a {@link Workload} run. Warmup is excluded.
+ *
+ * Latencies are recorded in nanoseconds.
+ */
+public final class WorkloadResult {
+    private final long elapsedNanos;
+    private final long errors;
+    private final LatencyHistogram latency;
+    private final Map<String, LatencyHistogram> latencyByOperation;
+
+    WorkloadResult(long elapsedNanos, long errors, LatencyHistogram latency,
+                   Map<String, LatencyHistogram> latencyByOperation) {
+        this.elapsedNanos = elapsedNanos;
+        this.errors = errors;
+        this.latency = latency;
+        this.latencyByOperation = Collections.unmodifiableMap(latencyByOperation);
+    }
+
+    /**
+     * @return The number of operations that completed without error.
+     */
+    public long getOperations() {
+        return this.latency.getTotalCount();
+    }
+
+    /**
+     * @return The number of operations that threw.
+     */
+    public long getErrors() {
+        return this.errors;
+    }
+
+    /**
+     * @return Wall clock time of the measured phase in nanoseconds.
+     */
+    public long getElapsedNanos() {
+        return this.elapsedNanos;
+    }
+
+    /**
+     * @return Successful operations per second over the measured phase.
+     */
+    public double getThroughput() {
+        if (this.elapsedNanos == 0) {
+            return 0;
+        }
+        return getOperations() * (double) TimeUnit.SECONDS.toNanos(1) / this.elapsedNanos;
+    }
+
+    /**
+     * @return Latency of all successful operations.
+     */
+    public LatencyHistogram getLatency() {
+        return this.latency;
+    }
+
+    /**
+     * @return Latency of successful operations keyed by operation name.
+     */
+    public Map<String, LatencyHistogram> getLatencyByOperation() {
+        return this.latencyByOperation;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(String.format(
+                "ops=%d errors=%d elapsed=%dms throughput=%.1f ops/s %s",
+                getOperations(), this.errors, TimeUnit.NANOSECONDS.toMillis(this.elapsedNanos),
+                getThroughput(), formatLatency(this.latency)));
+        for (Map.Entry<String, LatencyHistogram> entry : this.latencyByOperation.entrySet()) {
+            builder.append(String.format("%n  %s: ops=%d %s",
+                    entry.getKey(), entry.getValue().getTotalCount(), formatLatency(entry.getValue())));
+        }
+        return builder.toString();
+    }
+
+    private static String formatLatency(LatencyHistogram histogram) {
+        return String.format("p50=%.3fms p90=%.3fms p99=%.3fms p99.9=%.3fms max=%.3fms",
+                toMillis(histogram.getValueAtPercentile(50)),
+                toMillis(histogram.getValueAtPercentile(90)),
+                toMillis(histogram.getValueAtPercentile(99)),
+                toMillis(histogram.getValueAtPercentile(99.9)),
+                toMillis(histogram.getMax()));
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
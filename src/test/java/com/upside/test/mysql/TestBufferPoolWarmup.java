@@ -0,0 +1,66 @@
+package com.upside.test.mysql;
+
+import com.upside.test.mysql.core.BufferPoolWarmupMySQLProcess;
+import com.upside.test.mysql.core.MySQLProcess;
+import org.flywaydb.core.Flyway;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Test for awaiting the buffer pool load at startup.
+ */
+public class TestBufferPoolWarmup {
+
+    @Rule
+    public MySQLRule rule = MySQLRule.defaultRule().awaitBufferPoolLoad();
+
+    @Test
+    public void testBufferPoolLoadAwaited() {
+        Assert.assertTrue(this.rule.getBufferPoolLoadStatus(),
+                this.rule.getBufferPoolLoadStatus().startsWith("Buffer pool(s) load completed"));
+        double fillRatio = this.rule.getBufferPoolFillRatio();
+
+        Flyway flyway = new Flyway();
+        flyway.setDataSource(this.rule.getDbUrl(), this.rule.getDbUser(), this.rule.getDbPassword());
+        flyway.migrate();
+
+        // Reported from the snapshot taken once the load finished, not recomputed as the test touches more pages.
+        Assert.assertEquals(fillRatio, this.rule.getBufferPoolFillRatio(), 0);
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testBufferPoolLoadNeverCompletes() {
+        new BufferPoolWarmupMySQLProcess(
+                reportingLoadStatus("Loading of buffer pool not started"), 3).startAndWait();
+    }
+
+    @Test(timeout = 1000, expected = RuntimeException.class)
+    public void testBufferPoolLoadErrorFailsImmediately() {
+        new BufferPoolWarmupMySQLProcess(
+                reportingLoadStatus("Error parsing '/tmp/ib_buffer_pool', unable to read"), 200).startAndWait();
+    }
+
+    private static MySQLProcess reportingLoadStatus(String status) {
+        return new MySQLProcess() {
+            @Override
+            public void sendClientCommands(String... commands) {
+            }
+
+            @Override
+            public String sendClientQuery(String query) {
+                return "Innodb_buffer_pool_load_status\t" + status;
+            }
+
+            @Override
+            public Process startAndWait() {
+                return null;
+            }
+
+            @Override
+            public Process stopAndCleanup() {
+                return null;
+            }
+        };
+    }
+}
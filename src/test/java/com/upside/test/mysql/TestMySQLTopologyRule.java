@@ -0,0 +1,57 @@
+package com.upside.test.mysql;
+
+import org.flywaydb.core.Flyway;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.skife.jdbi.v2.DBI;
+import org.skife.jdbi.v2.Handle;
+import org.skife.jdbi.v2.exceptions.UnableToExecuteStatementException;
+
+/**
+ * Test for the primary/replica topology rule.
+ */
+public class TestMySQLTopologyRule {
+
+    @Rule
+    public MySQLTopologyRule rule = MySQLTopologyRule.defaultRule(2);
+
+    @Test
+    public void testWritesReplicate() {
+        Flyway flyway = new Flyway();
+        flyway.setDataSource(this.rule.getWriteUrl(), this.rule.getDbUser(), this.rule.getDbPassword());
+        flyway.migrate();
+
+        this.rule.awaitReplication();
+
+        for (String readUrl : this.rule.getReadUrls()) {
+            try (Handle handle = new DBI(readUrl, this.rule.getDbUser(), this.rule.getDbPassword()).open()) {
+                Assert.assertTrue(handle.createQuery("SELECT COUNT(*) FROM schema_version")
+                        .mapTo(Integer.class)
+                        .first() > 0);
+            }
+        }
+    }
+
+    @Test(expected = UnableToExecuteStatementException.class)
+    public void testReplicasAreReadOnly() {
+        try (Handle handle = new DBI(this.rule.getReadUrl(0), this.rule.getDbUser(), this.rule.getDbPassword())
+                .open()) {
+            handle.execute("CREATE TABLE not_allowed (id INT PRIMARY KEY)");
+        }
+    }
+
+    @Test
+    public void testReplicationDelay() {
+        this.rule.setReplicationDelay(0, 2);
+
+        try (Handle handle = new DBI(this.rule.getWriteUrl(), this.rule.getDbUser(), this.rule.getDbPassword())
+                .open()) {
+            handle.execute("CREATE TABLE lagged (id INT PRIMARY KEY)");
+        }
+
+        long start = System.currentTimeMillis();
+        this.rule.awaitReplication();
+        Assert.assertTrue(System.currentTimeMillis() - start >= 1000);
+    }
+}
@@ -0,0 +1,98 @@
+package com.upside.test.mysql;
+
+import com.upside.test.mysql.workload.Workload;
+import com.upside.test.mysql.workload.WorkloadOperation;
+import com.upside.test.mysql.workload.WorkloadResult;
+import org.flywaydb.core.Flyway;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.sql.PreparedStatement;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Test for the workload driver against the rule's mysqld.
+ */
+public class TestWorkload {
+
+    @Rule
+    public MySQLRule rule = MySQLRule.defaultRule();
+
+    @Test
+    public void testWorkloadRunsFixedOperationCount() {
+        Flyway flyway = new Flyway();
+        flyway.setDataSource(this.rule.getDbUrl(), this.rule.getDbUser(), this.rule.getDbPassword());
+        flyway.migrate();
+
+        WorkloadResult result = Workload.against(this.rule)
+                .operation("select", 3, WorkloadOperation.sql("SELECT 1"))
+                .operation("show", 1, connection -> {
+                    try (PreparedStatement statement = connection.prepareStatement("SHOW TABLES")) {
+                        statement.executeQuery().close();
+                    }
+                })
+                .threads(4)
+                .warmup(200, TimeUnit.MILLISECONDS)
+                .operations(1000)
+                .build()
+                .run();
+
+        Assert.assertEquals(0, result.getErrors());
+        Assert.assertEquals(1000, result.getOperations());
+        Assert.assertTrue(result.getThroughput() > 0);
+        Assert.assertTrue(result.getLatency().getValueAtPercentile(99) <= result.getLatency().getMax());
+        Assert.assertEquals(1000, result.getLatencyByOperation().get("select").getTotalCount()
+                + result.getLatencyByOperation().get("show").getTotalCount());
+    }
+
+    @Test
+    public void testWorkloadCountsErrors() {
+        WorkloadResult result = Workload.against(this.rule)
+                .operation("missing-table", 1, WorkloadOperation.sql("SELECT * FROM does_not_exist"))
+                .duration(200, TimeUnit.MILLISECONDS)
+                .build()
+                .run();
+
+        Assert.assertEquals(0, result.getOperations());
+        Assert.assertTrue(result.getErrors() > 0);
+    }
+
+    @Test
+    public void testWorkloadCountsUncheckedErrors() {
+        WorkloadResult result = Workload.against(this.rule)
+                .operation("dao-failure", 1, connection -> {
+                    throw new IllegalStateException("Duplicate key");
+                })
+                .threads(2)
+                .operations(100)
+                .build()
+                .run();
+
+        Assert.assertEquals(0, result.getOperations());
+        Assert.assertEquals(100, result.getErrors());
+    }
+
+    @Test(timeout = 5000)
+    public void testWorkloadFailsWhenWorkerDiesDuringWarmup() {
+        AtomicBoolean failed = new AtomicBoolean();
+        try {
+            Workload.against(this.rule)
+                    .operation("dies-once", 1, connection -> {
+                        if (failed.compareAndSet(false, true)) {
+                            throw new AssertionError("Worker died");
+                        }
+                    })
+                    .threads(4)
+                    .warmup(500, TimeUnit.MILLISECONDS)
+                    .duration(10, TimeUnit.SECONDS)
+                    .build()
+                    .run();
+            Assert.fail("Expected the run to fail.");
+        }
+        catch (RuntimeException e) {
+            Assert.assertTrue(e.getCause().getCause() instanceof AssertionError);
+        }
+    }
+}